@@ -736,6 +736,37 @@ public class BuildPathManagerTest extends AbstractMavenProjectTestCase {
         mainArtifactSources.lastModified() < mainArtifact.lastModified());
   }
 
+  @Test
+  public void testDownloadSources_010_multipleProjectsAndDuplicateRequests() throws Exception {
+    deleteSourcesAndJavadoc(new File(repo, "downloadsources/downloadsources-t001/0.0.1/"));
+    deleteSourcesAndJavadoc(new File(repo, "downloadsources/downloadsources-t002/0.0.1/"));
+    deleteSourcesAndJavadoc(new File(repo, "downloadsources/downloadsources-t003/0.0.1"));
+
+    IProject p001 = createExisting("downloadsources-p001", "projects/downloadsources/p001");
+    IProject p002 = createExisting("downloadsources-p002", "projects/downloadsources/p002");
+    waitForJobsToComplete();
+
+    // sanity check
+    IClasspathEntry[] cp1 = getClasspathEntries(p001);
+    assertNullSourceAttachmentPaths(2, cp1);
+    assertNullSourceAttachmentPaths(1, getClasspathEntries(p002));
+
+    // bulk requests for both projects, followed by a single entry request already covered by the first one
+    getBuildPathManager().scheduleDownload(p001, true, false);
+    getBuildPathManager().scheduleDownload(p002, false, true);
+    getBuildPathManager().scheduleDownload(getPackageFragmentRoot(JavaCore.create(p001), cp1[0]), true, false);
+    waitForJobsToComplete();
+
+    cp1 = getClasspathEntries(p001);
+    assertEquals(2, cp1.length);
+    assertEquals("downloadsources-t001-0.0.1-sources.jar", cp1[0].getSourceAttachmentPath().lastSegment());
+    assertEquals("downloadsources-t002-0.0.1-sources.jar", cp1[1].getSourceAttachmentPath().lastSegment());
+
+    IClasspathEntry[] cp2 = getClasspathEntries(p002);
+    assertNullSourceAttachmentPaths(1, cp2);
+    assertEquals("" + cp2[0], 1, getAttributeCount(cp2[0], IClasspathAttribute.JAVADOC_LOCATION_ATTRIBUTE_NAME));
+  }
+
   private BuildPathManager getBuildPathManager() {
     return (BuildPathManager) MavenJdtPlugin.getDefault().getBuildpathManager();
   }
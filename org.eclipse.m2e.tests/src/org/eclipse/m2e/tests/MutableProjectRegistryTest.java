@@ -15,12 +15,14 @@ package org.eclipse.m2e.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.RandomAccessFile;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -43,7 +45,9 @@ import org.eclipse.m2e.core.embedder.IMaven;
 import org.eclipse.m2e.core.internal.MavenPluginActivator;
 import org.eclipse.m2e.core.internal.project.registry.Capability;
 import org.eclipse.m2e.core.internal.project.registry.IProjectRegistry;
+import org.eclipse.m2e.core.internal.project.registry.MavenCapability;
 import org.eclipse.m2e.core.internal.project.registry.MavenProjectFacade;
+import org.eclipse.m2e.core.internal.project.registry.MavenRequiredCapability;
 import org.eclipse.m2e.core.internal.project.registry.MutableProjectRegistry;
 import org.eclipse.m2e.core.internal.project.registry.ProjectRegistry;
 import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryReader;
@@ -230,6 +234,26 @@ public class MutableProjectRegistryTest extends AbstractMavenProjectTestCase {
     workspaceFile.delete();
   }
 
+  @Test
+  public void testSaveParticipantWritesCompleteState() throws Exception {
+    IProject project = importProject("projects/simple-pom/pom.xml");
+    waitForJobsToComplete();
+
+    File stateLocationDir = MavenPluginActivator.getDefault().getStateLocation().toFile();
+    File workspaceFile = new File(stateLocationDir, WORKSPACE_STATE_SER);
+    workspaceFile.delete();
+    ResourcesPlugin.getWorkspace().save(true, null);
+    assertTrue(workspaceFile.exists());
+
+    // a full save is synchronous, the state on disk is complete and current when save returns
+    ProjectRegistryReader reader = new ProjectRegistryReader();
+    reader.setStateLocation(stateLocationDir);
+    ProjectRegistry state = reader.readWorkspaceState(null);
+    assertTrue(state.isValid());
+    assertNotNull(state.getProjectFacade(project.getFile("pom.xml")));
+    workspaceFile.delete();
+  }
+
   @Test
   public void testForeignClassesInSerializedProjectRegistry() throws Exception {
     ProjectRegistry state = new ProjectRegistry();
@@ -257,6 +281,81 @@ public class MutableProjectRegistryTest extends AbstractMavenProjectTestCase {
     tmpDir.delete();
   }
 
+  @Test
+  public void testTruncatedWorkspaceStateIsDiscarded() throws Exception {
+    ProjectRegistry state = new ProjectRegistry();
+    MutableProjectRegistry delta = new MutableProjectRegistry(state);
+
+    IProject project = createExisting("dummy", "resources/dummy");
+    IFile pom = project.getFile("p1.xml");
+    delta.setProject(pom, newProjectFacade(pom));
+    state.apply(delta);
+
+    File tmpDir = File.createTempFile("m2e-" + name.getMethodName(), "dir");
+    tmpDir.delete();
+    tmpDir.mkdir();
+    ProjectRegistryReader reader = new ProjectRegistryReader();
+    reader.setStateLocation(tmpDir);
+    reader.writeWorkspaceState(state);
+
+    File stateFile = new File(tmpDir, WORKSPACE_STATE_SER);
+    assertTrue(stateFile.length() > 1);
+    try (RandomAccessFile raf = new RandomAccessFile(stateFile, "rw")) {
+      raf.setLength(stateFile.length() / 2);
+    }
+
+    // a truncated state file is not read as a valid registry
+    state = reader.readWorkspaceState(null);
+    assertTrue(state == null || !state.isValid());
+
+    stateFile.delete();
+    tmpDir.delete();
+  }
+
+  @Test
+  public void testCapabilityDependentsFoundAfterRoundTrip() throws Exception {
+    ProjectRegistry state = new ProjectRegistry();
+    MutableProjectRegistry delta = new MutableProjectRegistry(state);
+
+    IProject project = createExisting("dummy", "resources/dummy");
+    IFile pom1 = project.getFile("p1.xml");
+    IFile pom2 = project.getFile("p2.xml");
+    MavenProjectFacade f1 = newProjectFacade(pom1);
+    MavenProjectFacade f2 = newProjectFacade(pom2);
+    delta.setProject(pom1, f1);
+    delta.setProject(pom2, f2);
+    delta.setCapabilities(pom1, Set.of(MavenCapability.createMavenArtifact(f1.getArtifactKey())));
+    delta.setRequirements(pom2,
+        Set.of(MavenRequiredCapability.createMavenArtifact(f1.getArtifactKey(), "compile", false)));
+    state.apply(delta);
+
+    File tmpDir = File.createTempFile("m2e-" + name.getMethodName(), "dir");
+    tmpDir.delete();
+    tmpDir.mkdir();
+    ProjectRegistryReader reader = new ProjectRegistryReader();
+    reader.setStateLocation(tmpDir);
+    reader.writeWorkspaceState(state);
+
+    state = reader.readWorkspaceState(null);
+    assertTrue(state.isValid());
+
+    // the capability -> dependent pom index restored from disk must be usable as is
+    delta = new MutableProjectRegistry(state);
+    assertEquals(Set.of(pom2), delta.getDependents(MavenCapability.createMavenArtifact(f1.getArtifactKey()), false));
+
+    // and must be updated in place when the capability changes
+    ArtifactKey changed = new ArtifactKey(f1.getArtifactKey().groupId(), f1.getArtifactKey().artifactId(),
+        "0.0.2-SNAPSHOT", null);
+    delta.setCapabilities(pom1, Set.of(MavenCapability.createMavenArtifact(changed)));
+    state.apply(delta);
+
+    delta = new MutableProjectRegistry(state);
+    assertEquals(Set.of(pom2), delta.getDependents(MavenCapability.createMavenArtifact(changed), false));
+
+    new File(tmpDir, WORKSPACE_STATE_SER).delete();
+    tmpDir.delete();
+  }
+
   private MavenProjectFacade newProjectFacade(IFile pom) throws Exception {
     MavenProject mavenProject = maven.readProject(pom.getLocation().toFile(), monitor);
     return new MavenProjectFacade(null, pom, mavenProject, null);
@@ -25,7 +25,10 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.After;
@@ -134,6 +137,14 @@ public class ProjectRegistryManagerTest extends AbstractMavenProjectTestCase {
     return mavenProject.getArtifacts();
   }
 
+  private List<String> getArtifactLocations(IMavenProjectFacade facade) throws CoreException {
+    List<String> locations = new ArrayList<>();
+    for(Artifact artifact : facade.getMavenProject(monitor).getArtifacts()) {
+      locations.add(artifact.getId() + "@" + artifact.getFile());
+    }
+    return locations;
+  }
+
   @Test
   public void test000_simple() throws Exception {
     IProject p1 = createExisting("t000-p1");
@@ -488,6 +499,67 @@ public class ProjectRegistryManagerTest extends AbstractMavenProjectTestCase {
     assertEquals(Set.of(p1, p2), getProjectsFromEvents(events));
   }
 
+  @Test
+  public void test007_noChangeRefreshKeepsResolutionResult() throws Exception {
+    // p1 depends on p2
+    IProject p1 = createExisting("t007-p1");
+    IProject p2 = createExisting("t007-p2");
+    waitForJobsToComplete();
+
+    List<String> a1 = getArtifactLocations(manager.create(p1, monitor));
+    assertEquals(1, a1.size());
+
+    // refresh without any change to the resolution inputs
+    events.clear();
+    manager.refresh(getPomFiles(p1, p2), monitor);
+    waitForJobsToComplete();
+
+    assertEquals(a1, getArtifactLocations(manager.create(p1, monitor)));
+    assertEquals(Set.of(p1, p2), getProjectsFromEvents(events));
+    for(MavenProjectChangedEvent event : events) {
+      assertEquals(MavenProjectChangedEvent.FLAG_NONE, event.getFlags());
+    }
+  }
+
+  @Test
+  public void test007_eventsDispatchedAfterCommitInDependencyOrder() throws Exception {
+    // p1 depends on p2
+    IProject p1 = createExisting("t007-p1");
+    IProject p2 = createExisting("t007-p2");
+    waitForJobsToComplete();
+
+    Map<IProject, Integer> batchIndex = new HashMap<>();
+    List<String> uncommitted = new ArrayList<>();
+    int[] batchCount = new int[1];
+    IMavenProjectChangedListener batchListener = (batch, monitor) -> {
+      for(MavenProjectChangedEvent event : batch) {
+        IMavenProjectFacade facade = event.getMavenProject();
+        if(facade == null) {
+          continue;
+        }
+        // listeners must only ever see state that is already committed to the registry
+        if(facade != manager.getProject(facade.getProject())) {
+          uncommitted.add(facade.getProject().getName());
+        }
+        // a project announced more than once is ordered by its first announcement
+        batchIndex.putIfAbsent(facade.getProject(), Integer.valueOf(batchCount[0]));
+      }
+      batchCount[0]++;
+    };
+    manager.addMavenProjectChangedListener(batchListener);
+    try {
+      manager.refresh(getPomFiles(p1, p2), monitor);
+    } finally {
+      manager.removeMavenProjectChangedListener(batchListener);
+    }
+
+    assertTrue(batchCount[0] >= 1);
+    assertTrue("Not committed before dispatch: " + uncommitted, uncommitted.isEmpty());
+    assertEquals(Set.of(p1, p2), batchIndex.keySet());
+    // p2 is not announced in a later batch than its dependent p1
+    assertTrue(batchIndex.get(p2).intValue() <= batchIndex.get(p1).intValue());
+  }
+
   @Test
   public void test007_changedVersion() throws Exception {
     // p1 depends on p2
@@ -944,6 +1016,45 @@ public class ProjectRegistryManagerTest extends AbstractMavenProjectTestCase {
     }
   }
 
+  @Test
+  public void testRepositoryMetadataRequestedOncePerRefresh() throws Exception {
+    FileUtils.deleteDirectory(new File(repo, "mngeclipse1996"));
+    String oldSettings = mavenConfiguration.getUserSettingsFile();
+    try {
+      injectRedirectingWagons();
+      mavenConfiguration.setUserSettingsFile(new File("projects/MNGECLIPSE-1996/settings.xml").getAbsolutePath());
+      waitForJobsToComplete();
+      IProject[] projects = importProjects("projects/MNGECLIPSE-1996", new String[] {"pom.xml", "mod-a/pom.xml",
+          "mod-b/pom.xml", "mod-c/pom.xml", "mod-d/pom.xml", "mod-e/pom.xml"}, new ResolverConfiguration());
+      waitForJobsToComplete();
+
+      boolean origSuspended = Job.getJobManager().isSuspended();
+      Job.getJobManager().suspend();
+      try {
+        // five modules depend on the same snapshot, each refresh requests its metadata only once
+        for(int i = 0; i < 2; i++ ) {
+          FilexWagon.setRequestFilterPattern("mngeclipse1996/.*xml", true);
+          HttxWagon.setRequestFilterPattern("mngeclipse1996/.*xml", true);
+
+          manager.refresh(getPomFiles(projects), monitor);
+
+          List<String> requests = new ArrayList<>();
+          requests.addAll(FilexWagon.getRequests());
+          requests.addAll(HttxWagon.getRequests());
+          assertFalse(requests.isEmpty());
+          assertEquals("Accessed metadata more than once: " + requests, new HashSet<>(requests).size(),
+              requests.size());
+        }
+      } finally {
+        if(!origSuspended) {
+          Job.getJobManager().resume();
+        }
+      }
+    } finally {
+      mavenConfiguration.setUserSettingsFile(oldSettings);
+    }
+  }
+
   @Test
   public void testEnvironmentVariablesConsidered() throws Exception {
     String tmpDir = System.getenv("TEMP");
@@ -1496,4 +1607,42 @@ public class ProjectRegistryManagerTest extends AbstractMavenProjectTestCase {
     manager.refresh(pomFiles, monitor);
     assertNoErrors(projects[0]);
   }
+
+  @Test
+  public void test463075_sharedExtensionRealmAfterProjectRemoval() throws Exception {
+    // both projects use the same build extension
+    IProject[] projects = importProjects("projects/463075_extensionAndPluginRealm", new String[] {
+        "extension-and-plugin/pom.xml", "extension-only/pom.xml"}, new ResolverConfiguration());
+    waitForJobsToComplete();
+    assertNoErrors(projects[0]);
+    assertNoErrors(projects[1]);
+
+    ClassRealm projectRealm = manager.create(projects[0], monitor).getMavenProject(monitor).getClassRealm();
+    assertNotNull(projectRealm);
+    ClassWorld world = projectRealm.getWorld();
+    ClassRealm extensionRealm = world
+        .getRealm("extension>org.eclipse.m2e.test.lifecyclemapping:test-lifecyclemapping-plugin:1.0.0");
+    assertNotNull(extensionRealm);
+
+    deleteProject(projects[1]);
+    waitForJobsToComplete();
+
+    // the extension is still in use by the remaining project, its realm must survive without any refresh
+    assertSame(extensionRealm,
+        world.getRealm("extension>org.eclipse.m2e.test.lifecyclemapping:test-lifecyclemapping-plugin:1.0.0"));
+    assertNotNull(extensionRealm.loadClass("org.eclipse.m2e.test.lifecyclemapping.plugin.DummyMojo1"));
+    assertNotNull(extensionRealm.getResource(
+        "META-INF/maven/org.eclipse.m2e.test.lifecyclemapping/test-lifecyclemapping-plugin/pom.properties"));
+
+    Set<IFile> pomFiles = getPomFiles(projects[0]);
+    manager.refresh(pomFiles, monitor);
+    projects[0].build(IncrementalProjectBuilder.FULL_BUILD, monitor);
+    waitForJobsToComplete();
+    assertNoErrors(projects[0]);
+
+    projectRealm = manager.create(projects[0], monitor).getMavenProject(monitor).getClassRealm();
+    assertNotNull(projectRealm);
+    assertNotNull(projectRealm.getWorld()
+        .getRealm("extension>org.eclipse.m2e.test.lifecyclemapping:test-lifecyclemapping-plugin:1.0.0"));
+  }
 }
@@ -20,6 +20,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.After;
@@ -32,9 +33,11 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.m2e.core.internal.MavenPluginActivator;
 import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryManager;
@@ -135,6 +138,39 @@ public class ProjectRegistryRefreshJobTest extends AbstractMavenProjectTestCase
     assertEquals(785, LOCAL_ARTIFACT.length()); // from updateRepo2
   }
 
+  /*
+   * Requests queued together must not lose the strongest update flag
+   */
+  @Test
+  public void testQueuedRequestsKeepForcedUpdate() throws Exception {
+    // import project
+    project = importProject("projects/updateProject/simple/pom.xml");
+    waitForJobsToComplete();
+    WorkspaceHelpers.assertNoErrors(project);
+    assertEquals(338, LOCAL_ARTIFACT.length()); // from updateRepo1
+
+    mavenConfiguration.setUserSettingsFile(new File(SETTINGS_TWO).getAbsolutePath());
+    waitForJobsToComplete();
+
+    events.clear();
+    boolean origSuspended = Job.getJobManager().isSuspended();
+    Job.getJobManager().suspend();
+    try {
+      projectRefreshJob.refresh(new MavenUpdateRequest(project, false, false));
+      projectRefreshJob.refresh(new MavenUpdateRequest(project, false, true));
+      projectRefreshJob.refresh(new MavenUpdateRequest(project, false, false));
+    } finally {
+      if(!origSuspended) {
+        Job.getJobManager().resume();
+      }
+    }
+    waitForJobsToComplete();
+    WorkspaceHelpers.assertNoErrors(project);
+
+    assertEquals(785, LOCAL_ARTIFACT.length()); // from updateRepo2
+    assertEquals(Set.of(project), getProjectsFromEvents(events));
+  }
+
   /*
    * Adding a new dependency should not force an update of the original
    */
@@ -176,6 +212,35 @@ public class ProjectRegistryRefreshJobTest extends AbstractMavenProjectTestCase
     assertEquals(338, LOCAL_ARTIFACT.length());
   }
 
+  @Test
+  public void testSingleProjectRequestQueuedBehindBulkRequest() throws Exception {
+    IProject[] projects = importProjects("projects/updateProject/multiProject/", new String[] {"projectA/pom.xml",
+        "projectB/pom.xml"}, new ResolverConfiguration());
+    waitForJobsToComplete();
+    WorkspaceHelpers.assertNoErrors(projects[0]);
+    WorkspaceHelpers.assertNoErrors(projects[1]);
+
+    events.clear();
+    boolean origSuspended = Job.getJobManager().isSuspended();
+    Job.getJobManager().suspend();
+    try {
+      // bulk request first, then a single project request covering part of it
+      projectRefreshJob.refresh(new MavenUpdateRequest(List.of(projects), false, false));
+      projectRefreshJob.refresh(new MavenUpdateRequest(projects[1], false, false));
+    } finally {
+      if(!origSuspended) {
+        Job.getJobManager().resume();
+      }
+    }
+    waitForJobsToComplete();
+
+    // every project of both requests is refreshed
+    assertTrue(projectRefreshJob.isEmpty());
+    assertEquals(Set.of(projects), getProjectsFromEvents(events));
+    WorkspaceHelpers.assertNoErrors(projects[0]);
+    WorkspaceHelpers.assertNoErrors(projects[1]);
+  }
+
   @Test
   public void testRefreshAfterOpen() throws Exception {
     setAutoBuilding(true);
@@ -257,6 +322,23 @@ public class ProjectRegistryRefreshJobTest extends AbstractMavenProjectTestCase
     assertTrue(projectRefreshJob.isEmpty());
   }
 
+  @Test
+  public void testIgnoreMarkerOnlyPomChanges() throws Exception {
+    project = importProject("projects/updateProject/simple/pom.xml");
+    waitForJobsToComplete();
+    WorkspaceHelpers.assertNoErrors(project);
+
+    ResourceDeltaStub delta = new ResourceDeltaStub(workspace.getRoot(), IResourceDelta.CHANGED, 0);
+    ResourceDeltaStub child = delta.addChild(new ResourceDeltaStub(project, IResourceDelta.CHANGED, 0));
+    IFile pom = project.getFile("pom.xml");
+    child.addChild(new ResourceDeltaStub(pom, IResourceDelta.CHANGED, IResourceDelta.MARKERS));
+
+    IResourceChangeEvent event = new ResourceChangeEvent(pom, IResourceChangeEvent.POST_CHANGE,
+        IncrementalProjectBuilder.AUTO_BUILD, delta);
+    projectRefreshJob.resourceChanged(event);
+    assertTrue(projectRefreshJob.isEmpty());
+  }
+
   @Test
   public void test445675_autobuild() throws Exception {
     // import with autobuild off
@@ -88,6 +88,26 @@ public class MavenExecutionContextTest extends AbstractMavenProjectTestCase {
     }, monitor);
   }
 
+  @Test
+  public void testSequentialContextsDoNotShareRequestState() throws Exception {
+    final String property = "first-property";
+    final MavenExecutionContext first = maven.createExecutionContext();
+    first.getExecutionRequest().getUserProperties().put(property, "true");
+    first.execute((context, monitor) -> {
+      assertTrue(context.getSession().getUserProperties().containsKey(property));
+      return null;
+    }, monitor);
+
+    // a second context does not see the user property set in the first one
+    final MavenExecutionContext second = maven.createExecutionContext();
+    assertFalse(second.getExecutionRequest().getUserProperties().containsKey(property));
+    second.execute((context, monitor) -> {
+      assertFalse(context.getSession().getUserProperties().containsKey(property));
+      assertNotNull(context.getRepositorySession());
+      return null;
+    }, monitor);
+  }
+
   @Test
   public void testReenterShortcut() throws Exception {
     final MavenExecutionContext context = maven.createExecutionContext();
@@ -26,6 +26,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -85,6 +89,31 @@ public class MavenImplTest extends AbstractMavenProjectTestCase {
         maven.getMojoParameterValue(project, execution, "excludes", List.class, monitor));
   }
 
+  @Test
+  public void testExecutionPlanBoundToProject() throws Exception {
+    // both projects use the same build plugins and only differ in plugin configuration
+    MavenExecutionResult result = readMavenProject(new File("projects/mojoparametervalue/pom.xml"), false);
+    assertFalse(result.hasExceptions());
+    MavenProject project = result.getProject();
+    MavenExecutionResult otherResult = readMavenProject(new File("projects/mojoparametervalue-other/pom.xml"), false);
+    assertFalse(otherResult.hasExceptions());
+    MavenProject other = otherResult.getProject();
+
+    MojoExecution execution = getExecution(
+        maven.calculateExecutionPlan(project, Arrays.asList("compile"), true, monitor), "maven-compiler-plugin",
+        "compile");
+    MojoExecution otherExecution = getExecution(
+        maven.calculateExecutionPlan(other, Arrays.asList("compile"), true, monitor), "maven-compiler-plugin",
+        "compile");
+
+    assertEquals("1.7", maven.getMojoParameterValue(project, execution, "source", String.class, monitor));
+    assertEquals("1.8", maven.getMojoParameterValue(other, otherExecution, "source", String.class, monitor));
+    assertEquals(Arrays.asList("a", "b", "c"),
+        maven.getMojoParameterValue(project, execution, "excludes", List.class, monitor));
+    assertEquals(Arrays.asList("d"),
+        maven.getMojoParameterValue(other, otherExecution, "excludes", List.class, monitor));
+  }
+
   private MojoExecution getExecution(MavenExecutionPlan executionPlan, String artifactId, String goal) {
     for(MojoExecution execution : executionPlan.getMojoExecutions()) {
       if(artifactId.equals(execution.getArtifactId()) && goal.equals(execution.getGoal())) {
@@ -230,6 +259,42 @@ public class MavenImplTest extends AbstractMavenProjectTestCase {
 
   }
 
+  @Test
+  public void testIsUnavailableAfterArtifactInstalledLocally() throws Exception {
+    RepositorySystem repositorySystem = maven.getPlexusContainer().lookup(RepositorySystem.class);
+
+    Artifact a = repositorySystem.createArtifactWithClassifier("missing", "missing", "1.2.4", "jar", "sources");
+
+    ArtifactRepository localRepository = maven.getLocalRepository();
+    File localFile = new File(localRepository.getBasedir(), localRepository.pathOf(a));
+    FileUtils.deleteDirectory(localFile.getParentFile());
+
+    ArrayList<ArtifactRepository> repositories = new ArrayList<>();
+    repositories.add(repositorySystem.createDefaultRemoteRepository());
+
+    try {
+      maven.resolve(a.getGroupId(), a.getArtifactId(), a.getBaseVersion(), a.getType(), a.getClassifier(),
+          repositories, monitor);
+      fail();
+    } catch(CoreException e) {
+      // expected
+    }
+    assertTrue(maven.isUnavailable(a.getGroupId(), a.getArtifactId(), a.getBaseVersion(), a.getType(),
+        a.getClassifier(), repositories));
+
+    // once the artifact is present in the local repository it is no longer reported as unavailable
+    localFile.getParentFile().mkdirs();
+    FileUtils.fileWrite(localFile.getAbsolutePath(), "not really a jar");
+    try {
+      assertFalse(maven.isUnavailable(a.getGroupId(), a.getArtifactId(), a.getBaseVersion(), a.getType(),
+          a.getClassifier(), repositories));
+      assertFalse(maven.isUnavailable(a.getGroupId(), a.getArtifactId(), a.getBaseVersion(), a.getType(),
+          a.getClassifier(), null));
+    } finally {
+      FileUtils.deleteDirectory(localFile.getParentFile());
+    }
+  }
+
   @Test
   public void testLocalRepositoryListener() throws Exception {
     List<ArtifactRepository> repositories = maven.getArtifactRepositories(true);
@@ -255,6 +320,70 @@ public class MavenImplTest extends AbstractMavenProjectTestCase {
 
   }
 
+  @Test
+  public void testLocalRepositoryExternalDelete() throws Exception {
+    List<ArtifactRepository> repositories = maven.getArtifactRepositories(true);
+    ArtifactRepository localRepository = maven.getLocalRepository();
+    File artifactDir = new File(localRepository.getBasedir(), "junit/junit/3.8.2");
+    FileUtils.deleteDirectory(artifactDir);
+
+    List<File> installed = new ArrayList<>();
+    ILocalRepositoryListener listener = (repositoryBasedir, baseArtifact, artifact, artifactFile) -> installed
+        .add(artifactFile);
+
+    maven.addLocalRepositoryListener(listener);
+    try {
+      maven.resolve("junit", "junit", "3.8.2", "jar", null, repositories, monitor);
+      assertEquals(1, installed.size());
+      assertFalse(maven.isUnavailable("junit", "junit", "3.8.2", "jar", null, null));
+
+      // removed behind m2e's back, lookups must not report a stale local copy
+      FileUtils.deleteDirectory(artifactDir);
+      assertTrue(maven.isUnavailable("junit", "junit", "3.8.2", "jar", null, null));
+
+      Artifact artifact = maven.resolve("junit", "junit", "3.8.2", "jar", null, repositories, monitor);
+      assertTrue(artifact.getFile().isFile());
+      assertEquals(2, installed.size());
+    } finally {
+      maven.removeLocalRepositoryListener(listener);
+    }
+  }
+
+  @Test
+  public void testConcurrentResolve() throws Exception {
+    final List<ArtifactRepository> repositories = maven.getArtifactRepositories(true);
+    FileUtils.deleteDirectory(new File(maven.getLocalRepository().getBasedir(), "junit/junit/3.8.2"));
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Artifact>> available = new ArrayList<>();
+      List<Future<Artifact>> missing = new ArrayList<>();
+      for(int i = 0; i < 4; i++ ) {
+        available.add(executor.submit(() -> maven.resolve("junit", "junit", "3.8.2", "jar", null, repositories,
+            new NullProgressMonitor())));
+        missing.add(executor.submit(() -> maven.resolve("missing", "missing", "0", "unknown", null, repositories,
+            new NullProgressMonitor())));
+      }
+
+      // failures of some requests never affect the outcome of the others
+      for(Future<Artifact> future : available) {
+        Artifact artifact = future.get();
+        assertTrue(artifact.isResolved());
+        assertTrue(artifact.getFile().isFile());
+      }
+      for(Future<Artifact> future : missing) {
+        try {
+          future.get();
+          fail();
+        } catch(ExecutionException e) {
+          assertTrue(e.getCause() instanceof CoreException);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void testMissingArtifact() throws Exception {
     try {
@@ -476,6 +605,29 @@ public class MavenImplTest extends AbstractMavenProjectTestCase {
     }
   }
 
+  @Test
+  public void testDeletedAndRestoredUserSettingsNoticed() throws Exception {
+    String origSettings = configuration.getUserSettingsFile();
+    try {
+      File settings = new File("target/358620_settings-deleted.xml").getCanonicalFile();
+
+      FileUtils.copyFile(new File("resources/358620_reparse_changed_user_settings/settings.xml-changed"), settings);
+      configuration.setUserSettingsFile(settings.getCanonicalPath());
+
+      // repeated reads of an unchanged file are stable
+      assertEquals(1, maven.getSettings().getActiveProfiles().size());
+      assertEquals(1, maven.getSettings().getActiveProfiles().size());
+
+      assertTrue(settings.delete());
+      assertEquals(0, maven.getSettings().getActiveProfiles().size());
+
+      FileUtils.copyFile(new File("resources/358620_reparse_changed_user_settings/settings.xml-changed"), settings);
+      assertEquals(1, maven.getSettings().getActiveProfiles().size());
+    } finally {
+      configuration.setUserSettingsFile(origSettings);
+    }
+  }
+
   @Test
   public void test366839_userAgent() throws Exception {
     HttpServer httpServer = new HttpServer();
@@ -13,10 +13,12 @@
 
 package org.eclipse.m2e.tests.internal.project;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,13 +29,16 @@ import org.junit.Test;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.m2e.core.MavenPlugin;
 import org.eclipse.m2e.core.internal.IMavenConstants;
 import org.eclipse.m2e.core.internal.MavenPluginActivator;
 import org.eclipse.m2e.core.internal.project.ProjectConfigurationManager;
 import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryManager;
+import org.eclipse.m2e.core.project.IMavenProjectChangedListener;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
+import org.eclipse.m2e.core.project.MavenProjectChangedEvent;
 import org.eclipse.m2e.core.project.configurator.AbstractProjectConfigurator;
 import org.eclipse.m2e.tests.common.AbstractMavenProjectTestCase;
 
@@ -47,12 +52,7 @@ public class ImportSortOrderTestCase extends AbstractMavenProjectTestCase {
     return project;
   }
 
-  private List<IMavenProjectFacade> createFacades() throws Exception {
-
-    List<IMavenProjectFacade> facades = new ArrayList<>();
-
-    ProjectRegistryManager manager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
-
+  private List<IProject> createProjects() throws Exception {
     List<IProject> projects = new ArrayList<>();
 
     projects.add(createProject("Pos", "projects/MNGECLIPSE-1028/pom.xml"));
@@ -73,6 +73,16 @@ public class ImportSortOrderTestCase extends AbstractMavenProjectTestCase {
     projects.add(createProject("PosConfig", "projects/MNGECLIPSE-1028/PosConfig/pom.xml"));
     projects.add(createProject("PosConfigJar", "projects/MNGECLIPSE-1028/PosConfig/PosConfigJar/pom.xml"));
     projects.add(createProject("PosConfigWeb", "projects/MNGECLIPSE-1028/PosConfig/PosConfigWeb/pom.xml"));
+    return projects;
+  }
+
+  private List<IMavenProjectFacade> createFacades() throws Exception {
+
+    List<IMavenProjectFacade> facades = new ArrayList<>();
+
+    ProjectRegistryManager manager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+
+    List<IProject> projects = createProjects();
 
     Set<IFile> pomFiles = getPomFiles(projects.toArray(IProject[]::new));
     manager.refresh(pomFiles, monitor);
@@ -99,6 +109,41 @@ public class ImportSortOrderTestCase extends AbstractMavenProjectTestCase {
     assertResultMap(aMap);
   }
 
+  @Test
+  public void testRefreshPublishesSingleEventBatch() throws Exception {
+    ProjectRegistryManager manager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+
+    List<IProject> projects = createProjects();
+    Set<IFile> pomFiles = getPomFiles(projects.toArray(IProject[]::new));
+    manager.refresh(pomFiles, monitor);
+    waitForJobsToComplete();
+
+    List<List<MavenProjectChangedEvent>> batches = new ArrayList<>();
+    IMavenProjectChangedListener listener = (events, monitor) -> batches.add(new ArrayList<>(events));
+    manager.addMavenProjectChangedListener(listener);
+
+    boolean origSuspended = Job.getJobManager().isSuspended();
+    Job.getJobManager().suspend();
+    try {
+      // all modules of the reactor are refreshed by a single call
+      manager.refresh(pomFiles, monitor);
+    } finally {
+      manager.removeMavenProjectChangedListener(listener);
+      if(!origSuspended) {
+        Job.getJobManager().resume();
+      }
+    }
+
+    assertEquals(1, batches.size());
+    Set<IProject> changed = new HashSet<>();
+    for(MavenProjectChangedEvent event : batches.get(0)) {
+      assertEquals(MavenProjectChangedEvent.KIND_CHANGED, event.getKind());
+      changed.add(event.getMavenProject().getProject());
+    }
+    assertEquals(batches.get(0).size(), changed.size());
+    assertEquals(new HashSet<>(projects), changed);
+  }
+
   private void assertResultMap(Map<String, Integer> aMap) {
     //Pos
     assertTrue(aMap.get("Pos").intValue() < aMap.get("Client").intValue()); //Client
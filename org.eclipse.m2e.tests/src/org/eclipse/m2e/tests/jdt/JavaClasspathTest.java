@@ -22,6 +22,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 import java.util.List;
@@ -304,6 +305,34 @@ public class JavaClasspathTest extends AbstractMavenProjectTestCase {
     assertContainersHaveAccessRules(JavaCore.create(project));
   }
 
+  @Test
+  public void testMavenContainerFollowsDependencyOrderChanges() throws Exception {
+    IProject project = importProject("projects/containerOrder/pom.xml");
+    IJavaProject javaProject = JavaCore.create(project);
+    IClasspathEntry[] entries = BuildPathManager.getMaven2ClasspathContainer(javaProject).getClasspathEntries();
+    assertTrue(indexOf(entries, "commons-lang-1.0.jar") < indexOf(entries, "junit-4.13.1.jar"));
+
+    // an update without pom changes leaves entries, attributes and order as they were
+    updateProjectConfiguration(project);
+    assertEquals(Arrays.asList(entries),
+        Arrays.asList(BuildPathManager.getMaven2ClasspathContainer(javaProject).getClasspathEntries()));
+
+    copyContent(project, "pom_reordered.xml", "pom.xml");
+    updateProjectConfiguration(project);
+    entries = BuildPathManager.getMaven2ClasspathContainer(javaProject).getClasspathEntries();
+    assertTrue(indexOf(entries, "junit-4.13.1.jar") < indexOf(entries, "commons-lang-1.0.jar"));
+  }
+
+  private static int indexOf(IClasspathEntry[] entries, String fileName) {
+    for(int i = 0; i < entries.length; i++ ) {
+      if(fileName.equals(entries[i].getPath().lastSegment())) {
+        return i;
+      }
+    }
+    fail("Missing classpath entry " + fileName);
+    return -1;
+  }
+
   @Test
   public void test518218_configureMethodParametersGenerationWithParameters() throws Exception {
     testMethodParametersGeneration("projects/518218/parameters/pom.xml");
@@ -109,4 +109,65 @@ public class MavenClasspathContainerSaveHelperTest {
     }
   }
 
+  @Test
+  public void testClasspathContainerSaveFidelity() throws Exception {
+    IClasspathEntry[] entries = new IClasspathEntry[3];
+
+    {
+      IAccessRule[] accessRules = new IAccessRule[2];
+      accessRules[0] = JavaCore.newAccessRule(new Path("aa/**"), IAccessRule.K_NON_ACCESSIBLE);
+      // IAccessRule.IGNORE_IF_BETTER is not covered, the saved format only keeps the rule kind
+      accessRules[1] = JavaCore.newAccessRule(new Path("bb/**"), IAccessRule.K_DISCOURAGED);
+
+      entries[0] = JavaCore.newProjectEntry(new Path("/foo"), accessRules, false, new IClasspathAttribute[0], true);
+    }
+
+    // same paths and attribute names repeated across entries
+    for(int i = 1; i < entries.length; i++ ) {
+      IClasspathAttribute[] attributes = new IClasspathAttribute[1];
+      attributes[0] = JavaCore.newClasspathAttribute("foo", "value" + i);
+
+      entries[i] = JavaCore.newLibraryEntry(new Path("/foo/moo" + i + ".jar"), new Path("/foo/moo-sources.jar"),
+          new Path("/foo"), new IAccessRule[0], attributes, i % 2 == 0);
+    }
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    helper.writeContainer(new MavenClasspathContainer(new Path(IClasspathManager.CONTAINER_ID), entries), os);
+
+    IClasspathContainer container = helper.readContainer(new ByteArrayInputStream(os.toByteArray()));
+
+    IClasspathEntry[] classpathEntries = container.getClasspathEntries();
+    assertEquals(3, classpathEntries.length);
+
+    {
+      IClasspathEntry entry = classpathEntries[0];
+      assertEquals(IClasspathEntry.CPE_PROJECT, entry.getEntryKind());
+      assertEquals(true, entry.isExported());
+      assertEquals(false, entry.combineAccessRules());
+      assertEquals(0, entry.getExtraAttributes().length);
+
+      IAccessRule[] accessRules = entry.getAccessRules();
+      assertEquals(2, accessRules.length);
+      assertEquals(IAccessRule.K_NON_ACCESSIBLE, accessRules[0].getKind());
+      assertEquals("aa/**", accessRules[0].getPattern().toString());
+      assertEquals(IAccessRule.K_DISCOURAGED, accessRules[1].getKind());
+      assertEquals("bb/**", accessRules[1].getPattern().toString());
+    }
+
+    for(int i = 1; i < classpathEntries.length; i++ ) {
+      IClasspathEntry entry = classpathEntries[i];
+      assertEquals(IClasspathEntry.CPE_LIBRARY, entry.getEntryKind());
+      assertEquals("/foo/moo" + i + ".jar", entry.getPath().toString());
+      assertEquals("/foo/moo-sources.jar", entry.getSourceAttachmentPath().toString());
+      assertEquals("/foo", entry.getSourceAttachmentRootPath().toString());
+      assertEquals(i % 2 == 0, entry.isExported());
+      assertEquals(0, entry.getAccessRules().length);
+
+      IClasspathAttribute[] attributes = entry.getExtraAttributes();
+      assertEquals(1, attributes.length);
+      assertEquals("foo", attributes[0].getName());
+      assertEquals("value" + i, attributes[0].getValue());
+    }
+  }
+
 }
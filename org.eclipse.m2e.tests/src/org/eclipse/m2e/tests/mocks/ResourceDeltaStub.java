@@ -37,9 +37,13 @@ public class ResourceDeltaStub extends PlatformObject implements IResourceDelta
   private List<IResourceDelta> children = new ArrayList<>();
 
   public ResourceDeltaStub(IResource resource) {
+    this(resource, IResourceDelta.CHANGED, IResourceDelta.CONTENT);
+  }
+
+  public ResourceDeltaStub(IResource resource, int kind, int flags) {
     this.resource = resource;
-    kind = IResourceDelta.CHANGED;
-    flags = IResourceDelta.CONTENT;
+    this.kind = kind;
+    this.flags = flags;
   }
 
   public <T extends IResourceDelta> T addChild(T child) {
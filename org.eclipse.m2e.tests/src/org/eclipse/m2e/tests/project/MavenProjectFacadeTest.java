@@ -8,10 +8,15 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IPath;
 
@@ -19,9 +24,14 @@ import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.project.MavenProject;
 
 import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.embedder.ArtifactKey;
 import org.eclipse.m2e.core.embedder.IMaven;
 import org.eclipse.m2e.core.internal.MavenPluginActivator;
+import org.eclipse.m2e.core.internal.project.registry.MavenProjectFacade;
+import org.eclipse.m2e.core.internal.project.registry.MutableProjectRegistry;
+import org.eclipse.m2e.core.internal.project.registry.ProjectRegistry;
 import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryManager;
+import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryReader;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
 import org.eclipse.m2e.core.project.configurator.AbstractProjectConfigurator;
 import org.eclipse.m2e.core.project.configurator.ILifecycleMapping;
@@ -84,6 +94,73 @@ public class MavenProjectFacadeTest extends AbstractMavenProjectTestCase {
     assertEquals("1.6", maven.getMojoParameterValue(mavenProject, compileMojo, "target", String.class, monitor));
   }
 
+  @Test
+  public void testGetProjectAfterWorkspaceStateRoundTrip() throws Exception {
+    IProject project = importProject("projects/getmojoexecution/pom.xml");
+    assertNoErrors(project);
+
+    IMavenProjectFacade facade = MavenPlugin.getMavenProjectRegistry().create(project, monitor);
+    IFile pom = facade.getPom();
+
+    ProjectRegistry state = new ProjectRegistry();
+    MutableProjectRegistry delta = new MutableProjectRegistry(state);
+    delta.setProject(pom, (MavenProjectFacade) facade);
+    state.apply(delta);
+
+    File tmpDir = File.createTempFile("m2e-testGetProjectAfterWorkspaceStateRoundTrip", "dir");
+    tmpDir.delete();
+    tmpDir.mkdir();
+    try {
+      ProjectRegistryReader reader = new ProjectRegistryReader();
+      reader.setStateLocation(tmpDir);
+      reader.writeWorkspaceState(state);
+
+      ProjectRegistryManager projectManager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+      state = reader.readWorkspaceState(projectManager);
+      assertTrue(state.isValid());
+
+      // lightweight metadata of the restored facade is available without resolving the MavenProject
+      MavenProjectFacade restored = state.getProjectFacade(pom);
+      assertNotNull(restored);
+      assertEquals(facade.getArtifactKey(), restored.getArtifactKey());
+      assertEquals(pom, restored.getPom());
+      assertEquals(facade.getMojoExecutionMapping().keySet(), restored.getMojoExecutionMapping().keySet());
+
+      MavenProject mavenProject = restored.getMavenProject(monitor);
+      assertNotNull(mavenProject);
+      assertEquals(facade.getArtifactKey().artifactId(), mavenProject.getArtifactId());
+    } finally {
+      new File(tmpDir, "workspaceState.ser").delete();
+      tmpDir.delete();
+    }
+  }
+
+  @Test
+  public void testGetMavenProjectReloadedOnceAfterRelease() throws Exception {
+    IProject project = importProject("projects/getmojoexecution/pom.xml");
+    assertNoErrors(project);
+
+    IMavenProjectFacade facade = MavenPlugin.getMavenProjectRegistry().create(project, monitor);
+    ArtifactKey artifactKey = facade.getArtifactKey();
+    Set<MojoExecutionKey> executionKeys = new HashSet<>(facade.getMojoExecutionMapping().keySet());
+
+    // drop the resolved MavenProject the same way the workspace restart does
+    deserializeFromWorkspaceState(facade);
+    MavenProject released = facade.getMavenProject();
+
+    // lightweight metadata is served from the facade and must not re-read the project
+    assertEquals(artifactKey, facade.getArtifactKey());
+    assertEquals(project.getFile("pom.xml"), facade.getPom());
+    assertEquals(executionKeys, facade.getMojoExecutionMapping().keySet());
+    assertSame(released, facade.getMavenProject());
+
+    // the first access reloads the project, later ones get the cached instance
+    MavenProject reloaded = facade.getMavenProject(monitor);
+    assertNotNull(reloaded);
+    assertEquals(artifactKey.artifactId(), reloaded.getArtifactId());
+    assertSame(reloaded, facade.getMavenProject(monitor));
+  }
+
   @Test
   public void testGetMojoExecutions() throws Exception {
     IProject project = importProject("projects/getmojoexecution/pom.xml");
@@ -137,6 +214,29 @@ public class MavenProjectFacadeTest extends AbstractMavenProjectTestCase {
     assertEquals("1.6", maven.getMojoParameterValue(mavenProject, executions.get(0), "target", String.class, monitor));
   }
 
+  @Test
+  public void testGetMojoParameterValueAfterPomChange() throws Exception {
+    IProject project = importProject("projects/getmojoexecution/pom.xml");
+    assertNoErrors(project);
+
+    assertEquals("1.6", getCompilerParameterValue(project, "target"));
+    assertEquals("1.6", getCompilerParameterValue(project, "target"));
+
+    // values evaluated for the previous facade must not survive a refresh
+    copyContent(project, "pom_changed.xml", "pom.xml");
+    assertEquals("1.7", getCompilerParameterValue(project, "target"));
+    assertEquals("1.5", getCompilerParameterValue(project, "source"));
+  }
+
+  private String getCompilerParameterValue(IProject project, String parameter) throws Exception {
+    IMavenProjectFacade facade = MavenPlugin.getMavenProjectRegistry().create(project, monitor);
+    List<MojoExecution> executions = facade.getMojoExecutions("org.apache.maven.plugins", "maven-compiler-plugin",
+        monitor, "compile");
+    assertEquals(executions.toString(), 1, executions.size());
+    return MavenPlugin.getMaven().getMojoParameterValue(facade.getMavenProject(monitor), executions.get(0),
+        parameter, String.class, monitor);
+  }
+
   @Test
   public void testGetProjectConfigurators() throws Exception {
     IProject project = importProject("projects/getmojoexecution/pom.xml");
@@ -210,6 +310,36 @@ public class MavenProjectFacadeTest extends AbstractMavenProjectTestCase {
     testIsNotStale(project, ".project");
   }
 
+  @Test
+  public void testStaleProjectsQuery() throws Exception {
+    IProject project = importProject("projects/testIsStale/pom.xml");
+    waitForJobsToComplete();
+    assertNoErrors(project);
+
+    assertEquals(List.of(), getStaleProjects());
+    assertEquals(List.of(), getStaleProjects());
+
+    project.getFile("pom.xml").touch(monitor);
+    assertEquals(List.of(project), getStaleProjects());
+
+    MavenPlugin.getMaven().execute(true /*offline*/, false /*updateSnapshots*/, (c, m) -> {
+      ProjectRegistryManager projectManager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+      projectManager.refresh(getPomFiles(project), monitor);
+      return null;
+    }, monitor);
+    assertEquals(List.of(), getStaleProjects());
+  }
+
+  private List<IProject> getStaleProjects() {
+    List<IProject> stale = new ArrayList<>();
+    for(IMavenProjectFacade facade : MavenPlugin.getMavenProjectRegistry().getProjects()) {
+      if(facade.isStale()) {
+        stale.add(facade.getProject());
+      }
+    }
+    return stale;
+  }
+
   private void testIsStale(IProject project, String filename) throws Exception {
     testStale(project, filename, true);
   }